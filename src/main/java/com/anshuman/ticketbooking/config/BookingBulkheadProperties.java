@@ -0,0 +1,21 @@
+package com.anshuman.ticketbooking.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Concurrency limits placed in front of each booking strategy so virtual threads queue on a
+ * permit instead of on the JDBC or Redis connection pools.
+ */
+@ConfigurationProperties(prefix = "booking.bulkhead")
+public record BookingBulkheadProperties(
+        @DefaultValue("3s") Duration requestBudget,
+        @DefaultValue Limits database,
+        @DefaultValue Limits redis) {
+
+    public record Limits(
+            @DefaultValue("8") int maxConcurrent,
+            @DefaultValue("500ms") Duration maxWait) {
+    }
+}
@@ -0,0 +1,86 @@
+package com.anshuman.ticketbooking.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+/**
+ * Only active when at least one replica is configured; otherwise Spring Boot's single
+ * {@code spring.datasource} pool is used unchanged.
+ */
+@Configuration
+@EnableConfigurationProperties(ReplicaDataSourceProperties.class)
+@ConditionalOnProperty(prefix = "booking.datasource", name = "replicas[0].url")
+public class DataSourceConfig {
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaDataSource(
+            HikariDataSource primaryDataSource,
+            DataSourceProperties primaryProperties,
+            ReplicaDataSourceProperties replicaProperties) {
+        List<DataSource> replicas = new ArrayList<>();
+        for (ReplicaDataSourceProperties.Replica replica : replicaProperties.replicas()) {
+            replicas.add(createReplica(
+                    "replica-" + replicas.size(),
+                    replica,
+                    primaryDataSource,
+                    primaryProperties,
+                    replicaProperties));
+        }
+        return new ReplicaRoutingDataSource(
+                primaryDataSource,
+                replicas,
+                replicaProperties.maxStaleness(),
+                replicaProperties.lagCheckInterval(),
+                replicaProperties.lagQuery());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaRoutingDataSource replicaDataSource) {
+        // Connections are fetched lazily so the transaction's read-only flag is known before we pick a target.
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primaryDataSource);
+        proxy.setReadOnlyDataSource(replicaDataSource);
+        return proxy;
+    }
+
+    private static HikariDataSource createReplica(
+            String poolName,
+            ReplicaDataSourceProperties.Replica replica,
+            HikariDataSource primaryDataSource,
+            DataSourceProperties primaryProperties,
+            ReplicaDataSourceProperties replicaProperties) {
+        // Replicas inherit the primary's spring.datasource.hikari.* tuning; only the target differs.
+        HikariDataSource dataSource = new HikariDataSource();
+        primaryDataSource.copyStateTo(dataSource);
+        dataSource.setPoolName(poolName);
+        dataSource.setJdbcUrl(replica.url());
+        dataSource.setUsername(StringUtils.hasText(replica.username())
+                ? replica.username()
+                : primaryProperties.determineUsername());
+        dataSource.setPassword(StringUtils.hasText(replica.password())
+                ? replica.password()
+                : primaryProperties.determinePassword());
+        dataSource.setReadOnly(true);
+        // A dead replica should cost a reader at most this long before the lag probe takes it out of rotation.
+        dataSource.setConnectionTimeout(replicaProperties.replicaConnectionTimeout().toMillis());
+        return dataSource;
+    }
+}
@@ -0,0 +1,9 @@
+package com.anshuman.ticketbooking.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(DistributedLockProperties.class)
+public class DistributedLockConfig {
+}
@@ -0,0 +1,17 @@
+package com.anshuman.ticketbooking.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Redis lock timings. The lease is sized from observed lock hold times and kept between
+ * {@code minLease} and {@code maxLease}; fencing tokens protect the seat row if it still runs out.
+ */
+@ConfigurationProperties(prefix = "booking.lock")
+public record DistributedLockProperties(
+        @DefaultValue("2s") Duration waitTimeout,
+        @DefaultValue("1s") Duration minLease,
+        @DefaultValue("5s") Duration maxLease,
+        @DefaultValue("2.0") double leaseSafetyFactor) {
+}
@@ -0,0 +1,33 @@
+package com.anshuman.ticketbooking.config;
+
+import java.time.Duration;
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Read replicas that serve read-only transactions. Credentials default to the primary's
+ * {@code spring.datasource} settings when left blank.
+ */
+@ConfigurationProperties(prefix = "booking.datasource")
+public record ReplicaDataSourceProperties(
+        @DefaultValue List<Replica> replicas,
+        @DefaultValue("2s") Duration maxStaleness,
+        @DefaultValue("1s") Duration lagCheckInterval,
+        @DefaultValue("1s") Duration replicaConnectionTimeout,
+        @DefaultValue(DEFAULT_LAG_QUERY) String lagQuery) {
+
+    /**
+     * Replication lag in seconds. A replica that has replayed everything it received counts as current
+     * only while its WAL receiver is streaming; otherwise (or if the role cannot read
+     * {@code pg_stat_wal_receiver}) the lag is null and the replica is treated as stale.
+     */
+    public static final String DEFAULT_LAG_QUERY = "select case"
+            + " when not pg_is_in_recovery() then 0"
+            + " when not exists (select 1 from pg_stat_wal_receiver where status = 'streaming') then null"
+            + " when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0"
+            + " else extract(epoch from now() - pg_last_xact_replay_timestamp()) end";
+
+    public record Replica(String url, String username, String password) {
+    }
+}
@@ -0,0 +1,163 @@
+package com.anshuman.ticketbooking.config;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * Spreads read-only connections across replicas whose replication lag is within the configured
+ * staleness tolerance, and falls back to the primary when none qualifies. Lag is probed on a
+ * background thread once per check interval; routing only reads the last result, so a slow or
+ * dead replica never holds up a request.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+    static final String PRIMARY_KEY = "primary";
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private final List<ReplicaState> replicas;
+    private final Duration maxStaleness;
+    private final String lagQuery;
+    private final int lagQueryTimeoutSeconds;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final ScheduledExecutorService lagProbe;
+
+    public ReplicaRoutingDataSource(
+            DataSource primary,
+            List<DataSource> replicas,
+            Duration maxStaleness,
+            Duration lagCheckInterval,
+            String lagQuery) {
+        Objects.requireNonNull(primary, "primary");
+        Objects.requireNonNull(lagCheckInterval, "lagCheckInterval");
+        this.maxStaleness = Objects.requireNonNull(maxStaleness, "maxStaleness");
+        this.lagQuery = Objects.requireNonNull(lagQuery, "lagQuery");
+        this.lagQueryTimeoutSeconds = (int) Math.max(1, lagCheckInterval.toSeconds());
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY_KEY, primary);
+        List<ReplicaState> states = new ArrayList<>(replicas.size());
+        for (DataSource replica : replicas) {
+            ReplicaState state = new ReplicaState("replica-" + states.size(), replica);
+            states.add(state);
+            targets.put(state.key, replica);
+        }
+        this.replicas = List.copyOf(states);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+
+        // Replicas start out unproven, so reads stay on the primary until the first probe succeeds.
+        this.lagProbe = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-probe");
+            thread.setDaemon(true);
+            return thread;
+        });
+        lagProbe.scheduleWithFixedDelay(
+                this::refreshReplicaLag,
+                0,
+                lagCheckInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        int size = replicas.size();
+        int start = Math.floorMod(nextReplica.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            ReplicaState replica = replicas.get((start + i) % size);
+            if (replica.fresh) {
+                return replica.key;
+            }
+        }
+        return PRIMARY_KEY;
+    }
+
+    void refreshReplicaLag() {
+        replicas.forEach(ReplicaState::refresh);
+    }
+
+    @Override
+    public void close() throws Exception {
+        lagProbe.shutdownNow();
+        // The primary pool is owned elsewhere; only the replica pools are ours to shut down.
+        for (ReplicaState replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private final class ReplicaState {
+        private final String key;
+        private final DataSource dataSource;
+        private volatile boolean fresh;
+        private volatile boolean probed;
+
+        private ReplicaState(String key, DataSource dataSource) {
+            this.key = key;
+            this.dataSource = dataSource;
+        }
+
+        /**
+         * Probes the replica and logs every change in whether it serves reads, as well as a first
+         * probe that fails, so a replica that never qualifies does not go unnoticed.
+         */
+        private void refresh() {
+            boolean wasFresh = fresh;
+            boolean firstProbe = !probed;
+            probed = true;
+            String reason;
+            try {
+                double lagSeconds = lagSeconds();
+                if (lagSeconds * 1000 <= maxStaleness.toMillis()) {
+                    fresh = true;
+                    if (!wasFresh) {
+                        log.info("Replica {} is {}s behind, routing reads to it", key, lagSeconds);
+                    }
+                    return;
+                }
+                reason = Double.isNaN(lagSeconds)
+                        ? "it reported no lag (is replication streaming, and does the probe user have pg_read_all_stats?)"
+                        : "it is " + lagSeconds + "s behind";
+            } catch (SQLException | RuntimeException ex) {
+                reason = "its lag check failed: " + ex.getMessage();
+            }
+            fresh = false;
+            if (wasFresh || firstProbe) {
+                log.warn("Replica {} is not serving reads because {}", key, reason);
+            }
+        }
+
+        private double lagSeconds() throws SQLException {
+            try (Connection connection = dataSource.getConnection();
+                    Statement statement = connection.createStatement()) {
+                statement.setQueryTimeout(lagQueryTimeoutSeconds);
+                try (ResultSet resultSet = statement.executeQuery(lagQuery)) {
+                    // A null lag means the replica cannot vouch for its freshness, e.g. replication is down.
+                    if (resultSet.next()) {
+                        double reported = resultSet.getDouble(1);
+                        if (!resultSet.wasNull()) {
+                            return reported;
+                        }
+                    }
+                    return Double.NaN;
+                }
+            }
+        }
+    }
+}
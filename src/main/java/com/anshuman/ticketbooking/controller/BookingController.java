@@ -1,11 +1,14 @@
 package com.anshuman.ticketbooking.controller;
 
+import com.anshuman.ticketbooking.dto.BestAvailableRequestDTO;
 import com.anshuman.ticketbooking.dto.BookingRequestDTO;
 import com.anshuman.ticketbooking.dto.BookingResponseDTO;
+import com.anshuman.ticketbooking.service.BestAvailableCommand;
 import com.anshuman.ticketbooking.service.BookingCommand;
 import com.anshuman.ticketbooking.service.BookingResult;
 import com.anshuman.ticketbooking.service.BookingService;
 import com.anshuman.ticketbooking.service.BookingStrategyType;
+import java.util.List;
 import java.util.Optional;
 import java.util.Objects;
 import org.slf4j.Logger;
@@ -51,6 +54,31 @@ public class BookingController {
                 result.booked());
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
-}
 
+    @PostMapping("/best-available")
+    public ResponseEntity<List<BookingResponseDTO>> bookBestAvailable(
+            @RequestBody BestAvailableRequestDTO bestAvailableRequest) {
+        Assert.notNull(bestAvailableRequest, "bestAvailableRequest is required");
+        Assert.notNull(bestAvailableRequest.quantity(), "quantity is required");
+        BookingStrategyType strategy = Optional.ofNullable(bestAvailableRequest.strategy())
+                .orElse(BookingStrategyType.REDIS);
+        log.info(
+                "Best-available request received for {} seats by user {} using {} strategy",
+                bestAvailableRequest.quantity(),
+                bestAvailableRequest.userId(),
+                strategy);
+        List<BookingResult> results = bookingService.bookBestAvailable(
+                new BestAvailableCommand(bestAvailableRequest.quantity(), bestAvailableRequest.userId()),
+                strategy);
 
+        List<BookingResponseDTO> response = results.stream()
+                .map(result -> new BookingResponseDTO(
+                        result.seatId(),
+                        result.seatNumber(),
+                        result.bookedBy(),
+                        result.bookedAt(),
+                        result.booked()))
+                .toList();
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+}
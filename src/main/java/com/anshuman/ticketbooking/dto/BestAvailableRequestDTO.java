@@ -0,0 +1,6 @@
+package com.anshuman.ticketbooking.dto;
+
+import com.anshuman.ticketbooking.service.BookingStrategyType;
+
+public record BestAvailableRequestDTO(Integer quantity, String userId, BookingStrategyType strategy) {
+}
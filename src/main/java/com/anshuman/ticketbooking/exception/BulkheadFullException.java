@@ -0,0 +1,25 @@
+package com.anshuman.ticketbooking.exception;
+
+import java.time.Duration;
+
+public class BulkheadFullException extends BookingException {
+    private final String bulkhead;
+    private final Duration remainingBudget;
+
+    public BulkheadFullException(String bulkhead, Duration remainingBudget) {
+        super(String.format(
+                "Booking capacity for %s strategy exhausted; no permit available within remaining %sms",
+                bulkhead,
+                remainingBudget.toMillis()));
+        this.bulkhead = bulkhead;
+        this.remainingBudget = remainingBudget;
+    }
+
+    public String getBulkhead() {
+        return bulkhead;
+    }
+
+    public Duration getRemainingBudget() {
+        return remainingBudget;
+    }
+}
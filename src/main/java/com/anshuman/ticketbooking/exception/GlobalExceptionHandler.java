@@ -8,6 +8,7 @@ import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -45,7 +46,60 @@ public class GlobalExceptionHandler {
                 request.getRequestURI());
         return ResponseEntity.status(HttpStatus.CONFLICT).body(body);
     }
-}
 
+    @ExceptionHandler(NoContiguousSeatsException.class)
+    public ResponseEntity<ApiErrorResponse> handleNoContiguousSeats(
+            NoContiguousSeatsException ex,
+            HttpServletRequest request) {
+        log.info(
+                "No contiguous block of {} seats available on path {}",
+                ex.getQuantity(),
+                request.getRequestURI());
+        ApiErrorResponse body = new ApiErrorResponse(
+                Instant.now(),
+                HttpStatus.CONFLICT.value(),
+                "SEATS_UNAVAILABLE",
+                ex.getMessage(),
+                request.getRequestURI());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(body);
+    }
 
+    @ExceptionHandler(StaleLockException.class)
+    public ResponseEntity<ApiErrorResponse> handleStaleLock(
+            StaleLockException ex,
+            HttpServletRequest request) {
+        bookingConflictCounter.increment();
+        log.warn(
+                "Fenced out stale write for seat {} (token={}) on path {}",
+                ex.getSeatId(),
+                ex.getFencingToken(),
+                request.getRequestURI());
+        ApiErrorResponse body = new ApiErrorResponse(
+                Instant.now(),
+                HttpStatus.CONFLICT.value(),
+                "LOCK_EXPIRED",
+                ex.getMessage(),
+                request.getRequestURI());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(body);
+    }
 
+    @ExceptionHandler(BulkheadFullException.class)
+    public ResponseEntity<ApiErrorResponse> handleBulkheadFull(
+            BulkheadFullException ex,
+            HttpServletRequest request) {
+        log.warn(
+                "Booking rejected by {} bulkhead with {}ms budget left on path {}",
+                ex.getBulkhead(),
+                ex.getRemainingBudget().toMillis(),
+                request.getRequestURI());
+        ApiErrorResponse body = new ApiErrorResponse(
+                Instant.now(),
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "BOOKING_OVERLOADED",
+                ex.getMessage(),
+                request.getRequestURI());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(body);
+    }
+}
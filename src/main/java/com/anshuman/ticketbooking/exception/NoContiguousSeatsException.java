@@ -0,0 +1,14 @@
+package com.anshuman.ticketbooking.exception;
+
+public class NoContiguousSeatsException extends BookingException {
+    private final int quantity;
+
+    public NoContiguousSeatsException(int quantity) {
+        super(String.format("No block of %s adjacent seats is currently available", quantity));
+        this.quantity = quantity;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+}
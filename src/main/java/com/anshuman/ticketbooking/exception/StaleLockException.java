@@ -0,0 +1,23 @@
+package com.anshuman.ticketbooking.exception;
+
+public class StaleLockException extends BookingException {
+    private final Long seatId;
+    private final long fencingToken;
+
+    public StaleLockException(Long seatId, long fencingToken) {
+        super(String.format(
+                "Lock for seat %s expired before commit; write with fencing token %s was rejected",
+                seatId,
+                fencingToken));
+        this.seatId = seatId;
+        this.fencingToken = fencingToken;
+    }
+
+    public Long getSeatId() {
+        return seatId;
+    }
+
+    public long getFencingToken() {
+        return fencingToken;
+    }
+}
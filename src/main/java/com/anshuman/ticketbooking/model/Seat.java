@@ -21,6 +21,8 @@ public class Seat {
 
     private Instant bookedAt;
 
+    private Long lockToken;
+
     @Version
     private Long version;
 
@@ -47,6 +49,10 @@ public class Seat {
         return bookedAt;
     }
 
+    public Long getLockToken() {
+        return lockToken;
+    }
+
     public Long getVersion() {
         return version;
     }
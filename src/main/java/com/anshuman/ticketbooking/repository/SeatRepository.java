@@ -2,9 +2,11 @@ package com.anshuman.ticketbooking.repository;
 
 import com.anshuman.ticketbooking.model.Seat;
 import jakarta.persistence.LockModeType;
+import java.time.Instant;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -12,4 +14,27 @@ public interface SeatRepository extends JpaRepository<Seat, Long> {
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("select s from Seat s where s.id = :id")
     Optional<Seat> findByIdForUpdate(@Param("id") Long id);
-}
\ No newline at end of file
+
+    /**
+     * Records the caller's fencing token on the row unless a newer holder has already done so.
+     * Returns 0 when the row is missing or carries a newer token.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Seat s set s.lockToken = :lockToken "
+            + "where s.id = :id and (s.lockToken is null or s.lockToken < :lockToken)")
+    int fence(@Param("id") Long id, @Param("lockToken") long lockToken);
+
+    /**
+     * Books the seat only if it is still free and still fenced with the caller's token.
+     * Returns 0 when either condition no longer holds.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Seat s set s.bookedBy = :userId, s.bookedAt = :bookedAt, "
+            + "s.version = coalesce(s.version, 0) + 1 "
+            + "where s.id = :id and s.bookedBy is null and s.lockToken = :lockToken")
+    int bookIfFenced(
+            @Param("id") Long id,
+            @Param("userId") String userId,
+            @Param("bookedAt") Instant bookedAt,
+            @Param("lockToken") long lockToken);
+}
@@ -0,0 +1,4 @@
+package com.anshuman.ticketbooking.service;
+
+public record BestAvailableCommand(int quantity, String userId) {
+}
@@ -0,0 +1,6 @@
+package com.anshuman.ticketbooking.service;
+
+import java.util.List;
+
+public record BlockBookingCommand(List<Long> seatIds, String userId) {
+}
@@ -0,0 +1,111 @@
+package com.anshuman.ticketbooking.service;
+
+import com.anshuman.ticketbooking.exception.BookingException;
+import com.anshuman.ticketbooking.exception.BulkheadFullException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Fair semaphore guarding one booking strategy. Callers carry an absolute deadline; if the
+ * permit cannot realistically be obtained before it, the call is rejected up front rather than
+ * parking a virtual thread that will time out anyway.
+ */
+class BookingBulkhead {
+    private static final double HOLD_TIME_SMOOTHING = 0.2;
+
+    private final String name;
+    private final int maxConcurrent;
+    private final Duration maxWait;
+    private final Semaphore permits;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final Timer waitTimer;
+    private final Counter rejectedCounter;
+
+    private volatile double averageHoldNanos;
+
+    BookingBulkhead(String name, int maxConcurrent, Duration maxWait, MeterRegistry meterRegistry) {
+        this.name = Objects.requireNonNull(name, "name");
+        this.maxConcurrent = maxConcurrent;
+        this.maxWait = Objects.requireNonNull(maxWait, "maxWait");
+        this.permits = new Semaphore(maxConcurrent, true);
+
+        Gauge.builder("booking.bulkhead.active", permits, p -> maxConcurrent - p.availablePermits())
+                .description("Booking calls currently holding a bulkhead permit")
+                .tag("strategy", name)
+                .register(meterRegistry);
+        Gauge.builder("booking.bulkhead.queued", waiting, AtomicInteger::get)
+                .description("Booking calls waiting for a bulkhead permit")
+                .tag("strategy", name)
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("booking.bulkhead.wait")
+                .description("Time spent waiting for a bulkhead permit")
+                .tag("strategy", name)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("booking.bulkhead.rejected.total")
+                .description("Booking calls rejected because no permit was available in time")
+                .tag("strategy", name)
+                .register(meterRegistry);
+    }
+
+    <T> T execute(long deadlineNanos, Supplier<T> call) {
+        long remainingNanos = deadlineNanos - System.nanoTime();
+        // We only ever wait up to the smaller of max-wait and the remaining budget, so judge the estimate against that.
+        long allowedWaitNanos = Math.min(maxWait.toNanos(), remainingNanos);
+        if (remainingNanos <= 0 || estimatedWaitNanos() > allowedWaitNanos) {
+            throw reject(remainingNanos);
+        }
+
+        long waitStart = System.nanoTime();
+        boolean acquired;
+        waiting.incrementAndGet();
+        try {
+            acquired = permits.tryAcquire(allowedWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BookingException("Interrupted while waiting for " + name + " bulkhead permit");
+        } finally {
+            waiting.decrementAndGet();
+            waitTimer.record(System.nanoTime() - waitStart, TimeUnit.NANOSECONDS);
+        }
+        if (!acquired) {
+            throw reject(deadlineNanos - System.nanoTime());
+        }
+
+        long holdStart = System.nanoTime();
+        try {
+            return call.get();
+        } finally {
+            recordHoldTime(System.nanoTime() - holdStart);
+            permits.release();
+        }
+    }
+
+    private long estimatedWaitNanos() {
+        if (permits.availablePermits() > 0) {
+            return 0;
+        }
+        // Each permit frees up roughly once per average hold, so the queue drains maxConcurrent at a time.
+        return (long) (averageHoldNanos * (waiting.get() / maxConcurrent + 1));
+    }
+
+    private void recordHoldTime(long holdNanos) {
+        double current = averageHoldNanos;
+        averageHoldNanos = current == 0
+                ? holdNanos
+                : current + HOLD_TIME_SMOOTHING * (holdNanos - current);
+    }
+
+    private BulkheadFullException reject(long remainingNanos) {
+        rejectedCounter.increment();
+        return new BulkheadFullException(name, Duration.ofNanos(Math.max(0, remainingNanos)));
+    }
+}
@@ -0,0 +1,50 @@
+package com.anshuman.ticketbooking.service;
+
+import com.anshuman.ticketbooking.config.BookingBulkheadProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Component;
+
+@Component
+public class BookingBulkheadRegistry {
+    private final Map<BookingStrategyType, BookingBulkhead> bulkheads = new EnumMap<>(BookingStrategyType.class);
+    private final Duration requestBudget;
+
+    public BookingBulkheadRegistry(BookingBulkheadProperties properties, MeterRegistry meterRegistry) {
+        Objects.requireNonNull(properties, "properties");
+        Objects.requireNonNull(meterRegistry, "meterRegistry");
+        this.requestBudget = properties.requestBudget();
+        bulkheads.put(
+                BookingStrategyType.DATABASE,
+                create(BookingStrategyType.DATABASE, properties.database(), meterRegistry));
+        bulkheads.put(
+                BookingStrategyType.REDIS,
+                create(BookingStrategyType.REDIS, properties.redis(), meterRegistry));
+    }
+
+    /**
+     * Deadline, in {@link System#nanoTime()} terms, for a booking request that started at {@code startNanos}.
+     */
+    public long deadlineFrom(long startNanos) {
+        return startNanos + requestBudget.toNanos();
+    }
+
+    public <T> T execute(BookingStrategyType type, long deadlineNanos, Supplier<T> call) {
+        return bulkheads.get(type).execute(deadlineNanos, call);
+    }
+
+    private static BookingBulkhead create(
+            BookingStrategyType type,
+            BookingBulkheadProperties.Limits limits,
+            MeterRegistry meterRegistry) {
+        return new BookingBulkhead(
+                type.name().toLowerCase(),
+                limits.maxConcurrent(),
+                limits.maxWait(),
+                meterRegistry);
+    }
+}
@@ -2,7 +2,10 @@ package com.anshuman.ticketbooking.service;
 
 import com.anshuman.ticketbooking.dto.SeatDTO;
 import com.anshuman.ticketbooking.exception.BookingException;
+import com.anshuman.ticketbooking.exception.NoContiguousSeatsException;
+import com.anshuman.ticketbooking.exception.SeatOccupiedException;
 import java.time.Duration;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import org.slf4j.Logger;
@@ -13,18 +16,26 @@ import org.springframework.util.Assert;
 @Service
 public class BookingService {
     private static final Logger log = LoggerFactory.getLogger(BookingService.class);
+    private static final int MAX_BLOCK_SIZE = 10;
+    private static final int MAX_BLOCK_ATTEMPTS = 3;
 
     private final DatabaseLockingBookingStrategy databaseStrategy;
     private final DistributedLockingBookingStrategy distributedStrategy;
     private final WebSocketService webSocketService;
+    private final SeatAvailabilityIndex availabilityIndex;
+    private final BookingBulkheadRegistry bulkheads;
 
     public BookingService(
             DatabaseLockingBookingStrategy databaseStrategy,
             DistributedLockingBookingStrategy distributedStrategy,
-            WebSocketService webSocketService) {
+            WebSocketService webSocketService,
+            SeatAvailabilityIndex availabilityIndex,
+            BookingBulkheadRegistry bulkheads) {
         this.databaseStrategy = Objects.requireNonNull(databaseStrategy, "databaseStrategy");
         this.distributedStrategy = Objects.requireNonNull(distributedStrategy, "distributedStrategy");
         this.webSocketService = Objects.requireNonNull(webSocketService, "webSocketService");
+        this.availabilityIndex = Objects.requireNonNull(availabilityIndex, "availabilityIndex");
+        this.bulkheads = Objects.requireNonNull(bulkheads, "bulkheads");
     }
 
     public BookingResult bookSeat(BookingCommand command, BookingStrategyType type) {
@@ -33,7 +44,7 @@ public class BookingService {
 
         long startNanos = System.nanoTime();
         try {
-            BookingResult result = executeBooking(command, strategyType);
+            BookingResult result = executeBooking(command, strategyType, bulkheads.deadlineFrom(startNanos));
             long durationMs = Duration.ofNanos(System.nanoTime() - startNanos).toMillis();
             log.info(
                     "Seat {} successfully booked by user {} using {} strategy. Latency: {}ms",
@@ -42,36 +53,114 @@ public class BookingService {
                     strategyType,
                     durationMs);
 
+            availabilityIndex.markBooked(result.seatId());
             publishSeatUpdate(result);
             return result;
+        } catch (SeatOccupiedException ex) {
+            availabilityIndex.markBooked(ex.getSeatId());
+            logFailure(command.seatId(), command.userId(), strategyType, startNanos, ex);
+            throw ex;
         } catch (BookingException ex) {
-            long durationMs = Duration.ofNanos(System.nanoTime() - startNanos).toMillis();
-            log.warn(
-                    "Booking failed for seat {} by user {} using {} strategy. Latency: {}ms. Cause: {}",
-                    command.seatId(),
-                    command.userId(),
-                    strategyType,
-                    durationMs,
-                    ex.getMessage());
+            logFailure(command.seatId(), command.userId(), strategyType, startNanos, ex);
             throw ex;
         }
     }
 
+    public List<BookingResult> bookBestAvailable(BestAvailableCommand command, BookingStrategyType type) {
+        validateCommand(command);
+        BookingStrategyType strategyType = resolveStrategy(type);
+        BookingStrategy strategy = strategyFor(strategyType);
+
+        long startNanos = System.nanoTime();
+        long deadlineNanos = bulkheads.deadlineFrom(startNanos);
+        for (int attempt = 1; attempt <= MAX_BLOCK_ATTEMPTS; attempt++) {
+            SeatAvailabilityIndex.SeatBlock block = availabilityIndex.reserveBestBlock(command.quantity())
+                    .orElseThrow(() -> new NoContiguousSeatsException(command.quantity()));
+            try {
+                BlockBookingCommand blockCommand = new BlockBookingCommand(block.seatIds(), command.userId());
+                List<BookingResult> results = bulkheads.execute(
+                        strategyType,
+                        deadlineNanos,
+                        () -> strategy.bookSeats(blockCommand));
+                long durationMs = Duration.ofNanos(System.nanoTime() - startNanos).toMillis();
+                log.info(
+                        "Seats {} in row {} successfully booked by user {} using {} strategy on attempt {}. Latency: {}ms",
+                        block.seatIds(),
+                        block.row(),
+                        command.userId(),
+                        strategyType,
+                        attempt,
+                        durationMs);
+                results.forEach(result -> availabilityIndex.markBooked(result.seatId()));
+                results.forEach(this::publishSeatUpdate);
+                return results;
+            } catch (SeatOccupiedException ex) {
+                // The index was stale, most likely from bookings on another instance: keep the taken seat
+                // marked, hand the rest back and reload the view before the next attempt.
+                availabilityIndex.markBooked(ex.getSeatId());
+                availabilityIndex.release(block.seatIds().stream()
+                        .filter(seatId -> !seatId.equals(ex.getSeatId()))
+                        .toList());
+                availabilityIndex.invalidate();
+                log.debug(
+                        "Best-available block {} for user {} hit a taken seat on attempt {}: {}",
+                        block.seatIds(),
+                        command.userId(),
+                        attempt,
+                        ex.getMessage());
+            } catch (RuntimeException ex) {
+                availabilityIndex.release(block.seatIds());
+                throw ex;
+            }
+        }
+        throw new NoContiguousSeatsException(command.quantity());
+    }
+
+    private void logFailure(
+            Long seatId,
+            String userId,
+            BookingStrategyType strategyType,
+            long startNanos,
+            BookingException ex) {
+        long durationMs = Duration.ofNanos(System.nanoTime() - startNanos).toMillis();
+        log.warn(
+                "Booking failed for seat {} by user {} using {} strategy. Latency: {}ms. Cause: {}",
+                seatId,
+                userId,
+                strategyType,
+                durationMs,
+                ex.getMessage());
+    }
+
     private void validateCommand(BookingCommand command) {
         Objects.requireNonNull(command, "bookingCommand");
         Assert.notNull(command.seatId(), "seatId is required");
         Assert.hasText(command.userId(), "userId is required");
     }
 
+    private void validateCommand(BestAvailableCommand command) {
+        Objects.requireNonNull(command, "bestAvailableCommand");
+        Assert.isTrue(
+                command.quantity() >= 1 && command.quantity() <= MAX_BLOCK_SIZE,
+                "quantity must be between 1 and " + MAX_BLOCK_SIZE);
+        Assert.hasText(command.userId(), "userId is required");
+    }
+
     private BookingStrategyType resolveStrategy(BookingStrategyType type) {
         return Optional.ofNullable(type)
                 .orElseThrow(() -> new BookingException("Booking strategy type is required"));
     }
 
-    private BookingResult executeBooking(BookingCommand command, BookingStrategyType type) {
+    private BookingResult executeBooking(BookingCommand command, BookingStrategyType type, long deadlineNanos) {
+        // The bulkhead caps how many callers can sit on pooled connections or Redis locks at once.
+        BookingStrategy strategy = strategyFor(type);
+        return bulkheads.execute(type, deadlineNanos, () -> strategy.bookSeat(command));
+    }
+
+    private BookingStrategy strategyFor(BookingStrategyType type) {
         return switch (type) {
-            case DATABASE -> databaseStrategy.bookSeat(command);
-            case REDIS -> distributedStrategy.bookSeat(command);
+            case DATABASE -> databaseStrategy;
+            case REDIS -> distributedStrategy;
         };
     }
 
@@ -1,5 +1,9 @@
 package com.anshuman.ticketbooking.service;
 
+import java.util.List;
+
 public interface BookingStrategy {
     BookingResult bookSeat(BookingCommand command);
-}
\ No newline at end of file
+
+    List<BookingResult> bookSeats(BlockBookingCommand command);
+}
@@ -5,6 +5,8 @@ import com.anshuman.ticketbooking.exception.SeatOccupiedException;
 import com.anshuman.ticketbooking.model.Seat;
 import com.anshuman.ticketbooking.repository.SeatRepository;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -49,7 +51,38 @@ public class DatabaseLockingBookingStrategy implements BookingStrategy {
                 seat.getBookedAt(),
                 true);
     }
-}
-
 
+    @Override
+    @Transactional
+    public List<BookingResult> bookSeats(BlockBookingCommand command) {
+        Objects.requireNonNull(command, "blockBookingCommand");
+        long lockStart = System.nanoTime();
+        // We lock rows in id order so two overlapping blocks can never deadlock each other.
+        List<Seat> seats = new ArrayList<>(command.seatIds().size());
+        for (Long seatId : command.seatIds().stream().sorted().toList()) {
+            Seat seat = seatRepository.findByIdForUpdate(seatId)
+                    .orElseThrow(() -> new SeatNotFoundException(seatId));
+            if (seat.isBooked()) {
+                throw SeatOccupiedException.forSeat(seat);
+            }
+            seats.add(seat);
+        }
+        long lockMs = Duration.ofNanos(System.nanoTime() - lockStart).toMillis();
+        log.debug(
+                "Seats {} locked via database for user {} in {}ms",
+                command.seatIds(),
+                command.userId(),
+                lockMs);
 
+        seats.forEach(seat -> seat.book(command.userId()));
+        seatRepository.saveAll(seats);
+        return seats.stream()
+                .map(seat -> new BookingResult(
+                        seat.getId(),
+                        seat.getSeatNumber(),
+                        seat.getBookedBy(),
+                        seat.getBookedAt(),
+                        true))
+                .toList();
+    }
+}
@@ -1,16 +1,18 @@
 package com.anshuman.ticketbooking.service;
 
-import com.anshuman.ticketbooking.exception.BookingException;
+import com.anshuman.ticketbooking.config.DistributedLockProperties;
 import com.anshuman.ticketbooking.exception.LockAcquisitionException;
-import com.anshuman.ticketbooking.exception.SeatNotFoundException;
-import com.anshuman.ticketbooking.exception.SeatOccupiedException;
-import com.anshuman.ticketbooking.model.Seat;
-import com.anshuman.ticketbooking.repository.SeatRepository;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.redisson.api.RFencedLock;
 import org.redisson.api.RLock;
 import org.redisson.api.RedissonClient;
 import org.springframework.stereotype.Component;
@@ -19,68 +21,95 @@ import org.springframework.transaction.support.TransactionTemplate;
 
 @Component
 public class DistributedLockingBookingStrategy implements BookingStrategy {
-    private static final Duration LOCK_WAIT = Duration.ofSeconds(2);
-    private static final Duration LOCK_LEASE = Duration.ofSeconds(5);
     private static final Logger log = LoggerFactory.getLogger(DistributedLockingBookingStrategy.class);
 
-    private final SeatRepository seatRepository;
     private final RedissonClient redissonClient;
     private final TransactionTemplate transactionTemplate;
+    private final FencedSeatWriter seatWriter;
+    private final DistributedLockProperties lockProperties;
+    private final LockLeaseSizer leaseSizer;
 
     public DistributedLockingBookingStrategy(
-            SeatRepository seatRepository,
             RedissonClient redissonClient,
-            PlatformTransactionManager transactionManager) {
-        this.seatRepository = Objects.requireNonNull(seatRepository, "seatRepository");
+            PlatformTransactionManager transactionManager,
+            FencedSeatWriter seatWriter,
+            DistributedLockProperties lockProperties,
+            LockLeaseSizer leaseSizer) {
         this.redissonClient = Objects.requireNonNull(redissonClient, "redissonClient");
         this.transactionTemplate = new TransactionTemplate(
                 Objects.requireNonNull(transactionManager, "transactionManager"));
+        this.seatWriter = Objects.requireNonNull(seatWriter, "seatWriter");
+        this.lockProperties = Objects.requireNonNull(lockProperties, "lockProperties");
+        this.leaseSizer = Objects.requireNonNull(leaseSizer, "leaseSizer");
     }
 
     @Override
     public BookingResult bookSeat(BookingCommand command) {
         Objects.requireNonNull(command, "bookingCommand");
-        RLock lock = redissonClient.getLock(lockKey(command.seatId()));
-        boolean acquired = false;
+        return withLocks(List.of(command.seatId()), command.userId(), tokens ->
+                transactionTemplate.execute(status -> seatWriter.claim(
+                        command.seatId(),
+                        command.userId(),
+                        tokens.get(command.seatId()))));
+    }
+
+    @Override
+    public List<BookingResult> bookSeats(BlockBookingCommand command) {
+        Objects.requireNonNull(command, "blockBookingCommand");
+        return withLocks(command.seatIds(), command.userId(), tokens ->
+                transactionTemplate.execute(status -> {
+                    List<BookingResult> results = new ArrayList<>(command.seatIds().size());
+                    for (Long seatId : command.seatIds()) {
+                        results.add(seatWriter.claim(seatId, command.userId(), tokens.get(seatId)));
+                    }
+                    return results;
+                }));
+    }
+
+    private <T> T withLocks(List<Long> seatIds, String userId, Function<Map<Long, Long>, T> work) {
+        Duration lease = leaseSizer.currentLease();
+        List<RLock> acquired = new ArrayList<>(seatIds.size());
+        Map<Long, Long> tokens = new HashMap<>();
+        long lockStart = System.nanoTime();
         try {
-            long lockStart = System.nanoTime();
-            // We keep the wait short so callers fail fast, and the lease short to avoid orphaned locks.
-            acquired = lock.tryLock(
-                    LOCK_WAIT.toSeconds(),
-                    LOCK_LEASE.toSeconds(),
-                    TimeUnit.SECONDS);
-            if (!acquired) {
-                throw new LockAcquisitionException(command.seatId(), LOCK_WAIT);
+            long waitDeadline = lockStart + lockProperties.waitTimeout().toNanos();
+            // We lock in id order so overlapping blocks cannot deadlock, and give up the whole block on any miss.
+            for (Long seatId : seatIds.stream().sorted().toList()) {
+                RFencedLock lock = redissonClient.getFencedLock(lockKey(seatId));
+                long remainingMs = Math.max(0, TimeUnit.NANOSECONDS.toMillis(waitDeadline - System.nanoTime()));
+                // Earlier locks in a block must outlive the wait for the later ones, so their lease covers it too.
+                long leaseMs = seatIds.size() > 1 ? lease.toMillis() + remainingMs : lease.toMillis();
+                // The token is issued atomically with the lock, so tokens order holders exactly as Redis did.
+                Long token = lock.tryLockAndGetToken(remainingMs, leaseMs, TimeUnit.MILLISECONDS);
+                if (token == null) {
+                    throw new LockAcquisitionException(seatId, lockProperties.waitTimeout());
+                }
+                acquired.add(lock);
+                tokens.put(seatId, token);
             }
-            long lockMs = Duration.ofNanos(System.nanoTime() - lockStart).toMillis();
             log.debug(
-                    "Seat {} locked via Redis for user {} in {}ms",
-                    command.seatId(),
-                    command.userId(),
-                    lockMs);
-
-            return transactionTemplate.execute(status -> {
-                Seat seat = seatRepository.findById(command.seatId())
-                        .orElseThrow(() -> new SeatNotFoundException(command.seatId()));
-                if (seat.isBooked()) {
-                    throw SeatOccupiedException.forSeat(seat);
-                }
-                seat.book(command.userId());
-                seatRepository.save(seat);
-                return new BookingResult(
-                        seat.getId(),
-                        seat.getSeatNumber(),
-                        seat.getBookedBy(),
-                        seat.getBookedAt(),
-                        true);
-            });
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new BookingException("Interrupted while acquiring lock for seat: " + command.seatId());
+                    "Seats {} locked via Redis for user {} in {}ms with {}ms lease, tokens {}",
+                    seatIds,
+                    userId,
+                    Duration.ofNanos(System.nanoTime() - lockStart).toMillis(),
+                    lease.toMillis(),
+                    tokens);
+            return work.apply(tokens);
         } finally {
-            if (acquired) {
-                lock.unlock();
+            if (acquired.size() == seatIds.size()) {
+                // Measured from the first acquisition, since that is the lock whose lease runs longest.
+                leaseSizer.recordHoldTime(Duration.ofNanos(System.nanoTime() - lockStart));
             }
+            acquired.forEach(this::unlock);
+        }
+    }
+
+    private void unlock(RLock lock) {
+        try {
+            lock.unlock();
+        } catch (IllegalMonitorStateException ex) {
+            // The lease already lapsed in Redis; the fencing token has kept the row safe, so this is not a failure.
+            log.warn("Lock {} expired before it was released: {}", lock.getName(), ex.getMessage());
         }
     }
 
@@ -0,0 +1,59 @@
+package com.anshuman.ticketbooking.service;
+
+import com.anshuman.ticketbooking.exception.SeatNotFoundException;
+import com.anshuman.ticketbooking.exception.SeatOccupiedException;
+import com.anshuman.ticketbooking.exception.StaleLockException;
+import com.anshuman.ticketbooking.model.Seat;
+import com.anshuman.ticketbooking.repository.SeatRepository;
+import java.time.Instant;
+import java.util.Objects;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Writes a seat on behalf of a Redis lock holder. The row is fenced with the holder's token at
+ * the start of the caller's transaction and the booking is only written while that token is
+ * still the one on the row, so a holder whose lease lapsed cannot overwrite a newer one.
+ */
+@Component
+public class FencedSeatWriter {
+    private final SeatRepository seatRepository;
+
+    public FencedSeatWriter(SeatRepository seatRepository) {
+        this.seatRepository = Objects.requireNonNull(seatRepository, "seatRepository");
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public BookingResult claim(Long seatId, String userId, long fencingToken) {
+        if (seatRepository.fence(seatId, fencingToken) == 0) {
+            throw rejection(seatId, fencingToken);
+        }
+        Seat seat = seatRepository.findById(seatId)
+                .orElseThrow(() -> new SeatNotFoundException(seatId));
+        if (seat.isBooked()) {
+            throw SeatOccupiedException.forSeat(seat);
+        }
+
+        Instant bookedAt = Instant.now();
+        if (seatRepository.bookIfFenced(seatId, userId, bookedAt, fencingToken) == 0) {
+            throw rejection(seatId, fencingToken);
+        }
+        return new BookingResult(
+                seat.getId(),
+                seat.getSeatNumber(),
+                userId,
+                bookedAt,
+                true);
+    }
+
+    private RuntimeException rejection(Long seatId, long fencingToken) {
+        // We re-read so an ordinary "someone booked it first" race is reported as such, not as an expired lock.
+        Seat current = seatRepository.findById(seatId)
+                .orElseThrow(() -> new SeatNotFoundException(seatId));
+        if (current.isBooked()) {
+            return SeatOccupiedException.forSeat(current);
+        }
+        return new StaleLockException(seatId, fencingToken);
+    }
+}
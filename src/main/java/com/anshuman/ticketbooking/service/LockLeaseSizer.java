@@ -0,0 +1,68 @@
+package com.anshuman.ticketbooking.service;
+
+import com.anshuman.ticketbooking.config.DistributedLockProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sizes the Redis lock lease from the p99 of recent lock hold times, so the lease tracks how
+ * long bookings actually take instead of a fixed worst case.
+ */
+@Component
+public class LockLeaseSizer {
+    private static final int WINDOW_SIZE = 512;
+    private static final int RECOMPUTE_EVERY = 32;
+    private static final double PERCENTILE = 0.99;
+
+    private final DistributedLockProperties properties;
+    private final long[] holdNanos = new long[WINDOW_SIZE];
+    // Called on every Redis booking, so we use a ReentrantLock rather than synchronized to avoid pinning virtual threads.
+    private final ReentrantLock windowLock = new ReentrantLock();
+
+    private int cursor;
+    private int filled;
+    private int sinceRecompute;
+    private volatile Duration currentLease;
+
+    public LockLeaseSizer(DistributedLockProperties properties, MeterRegistry meterRegistry) {
+        this.properties = Objects.requireNonNull(properties, "properties");
+        this.currentLease = properties.maxLease();
+        Gauge.builder("booking.lock.lease", this, sizer -> sizer.currentLease().toMillis())
+                .description("Current Redis lock lease in milliseconds")
+                .register(Objects.requireNonNull(meterRegistry, "meterRegistry"));
+    }
+
+    public Duration currentLease() {
+        return currentLease;
+    }
+
+    public void recordHoldTime(Duration holdTime) {
+        windowLock.lock();
+        try {
+            holdNanos[cursor] = holdTime.toNanos();
+            cursor = (cursor + 1) % WINDOW_SIZE;
+            filled = Math.min(filled + 1, WINDOW_SIZE);
+            // Until the window has some history we stay on the configured maximum.
+            if (++sinceRecompute >= RECOMPUTE_EVERY) {
+                sinceRecompute = 0;
+                currentLease = sizeLease();
+            }
+        } finally {
+            windowLock.unlock();
+        }
+    }
+
+    private Duration sizeLease() {
+        long[] window = Arrays.copyOf(holdNanos, filled);
+        Arrays.sort(window);
+        long p99 = window[Math.min(filled - 1, (int) Math.ceil(PERCENTILE * filled) - 1)];
+        long lease = (long) (p99 * properties.leaseSafetyFactor());
+        long clamped = Math.max(properties.minLease().toNanos(), Math.min(properties.maxLease().toNanos(), lease));
+        return Duration.ofNanos(clamped);
+    }
+}
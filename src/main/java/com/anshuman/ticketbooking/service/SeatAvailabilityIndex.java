@@ -0,0 +1,301 @@
+package com.anshuman.ticketbooking.service;
+
+import com.anshuman.ticketbooking.model.Seat;
+import com.anshuman.ticketbooking.repository.SeatRepository;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * In-memory view of free seats, kept as one bitset per row so contiguous runs can be found
+ * without touching the database. PostgreSQL stays the source of truth; the index only decides
+ * which seats are worth attempting. The view is reloaded every {@link #REFRESH_INTERVAL}, and
+ * sooner once {@link #invalidate()} reports it stale, so bookings made on other instances are
+ * picked up without waiting for failed claims to reveal them. Loads run in a read-write
+ * transaction so they are served by the primary; a lagging replica would hand back seats this
+ * instance has just booked as free.
+ */
+@Component
+public class SeatAvailabilityIndex {
+    static final Duration REFRESH_INTERVAL = Duration.ofSeconds(5);
+    private static final Logger log = LoggerFactory.getLogger(SeatAvailabilityIndex.class);
+    private static final char SEAT_NUMBER_SEPARATOR = '-';
+
+    private final SeatRepository seatRepository;
+    private final TransactionTemplate loadTransaction;
+    // We use ReentrantLocks rather than synchronized so virtual threads never pin a carrier here.
+    private final ReentrantLock stateLock = new ReentrantLock();
+    private final ReentrantLock loadLock = new ReentrantLock();
+    private final Set<Long> held = new HashSet<>();
+    private final Map<Long, Long> recentlyBooked = new HashMap<>();
+
+    private volatile View view;
+    private volatile boolean stale;
+
+    public SeatAvailabilityIndex(SeatRepository seatRepository, PlatformTransactionManager transactionManager) {
+        this.seatRepository = Objects.requireNonNull(seatRepository, "seatRepository");
+        this.loadTransaction = new TransactionTemplate(
+                Objects.requireNonNull(transactionManager, "transactionManager"));
+    }
+
+    /**
+     * Finds the best-scored block of {@code quantity} adjacent free seats and holds it, so
+     * concurrent callers are steered to different blocks instead of racing for the same one.
+     */
+    public Optional<SeatBlock> reserveBestBlock(int quantity) {
+        refreshIfNeeded();
+        stateLock.lock();
+        try {
+            Map<String, Row> rows = view.rows();
+            SeatBlock best = null;
+            double bestScore = Double.MAX_VALUE;
+            double preferredRow = (rows.size() - 1) / 2.0;
+            int rowIndex = 0;
+            for (Row row : rows.values()) {
+                double rowPenalty = Math.abs(rowIndex - preferredRow);
+                rowIndex++;
+                if (rowPenalty >= bestScore) {
+                    continue;
+                }
+                int start = row.bestStart(quantity);
+                if (start < 0) {
+                    continue;
+                }
+                double score = rowPenalty + row.centerPenalty(start, quantity);
+                if (score < bestScore) {
+                    bestScore = score;
+                    best = row.block(start, quantity);
+                }
+            }
+            if (best == null) {
+                return Optional.empty();
+            }
+            for (Long seatId : best.seatIds()) {
+                held.add(seatId);
+                clear(view, seatId);
+            }
+            return Optional.of(best);
+        } finally {
+            stateLock.unlock();
+        }
+    }
+
+    /**
+     * Returns held seats to the pool after a claim attempt did not go through. Seats that are no
+     * longer held, for example because another booking has since marked them booked, stay taken.
+     */
+    public void release(Collection<Long> seatIds) {
+        stateLock.lock();
+        try {
+            View current = view;
+            for (Long seatId : seatIds) {
+                if (!held.remove(seatId) || current == null) {
+                    continue;
+                }
+                SeatLocation location = current.locations().get(seatId);
+                if (location != null) {
+                    location.row().free.set(location.column());
+                }
+            }
+        } finally {
+            stateLock.unlock();
+        }
+    }
+
+    public void markBooked(Long seatId) {
+        stateLock.lock();
+        try {
+            held.remove(seatId);
+            recentlyBooked.put(seatId, System.nanoTime());
+            View current = view;
+            if (current != null) {
+                clear(current, seatId);
+            }
+        } finally {
+            stateLock.unlock();
+        }
+    }
+
+    /**
+     * Marks the current view stale so the next lookup reloads it from the database.
+     */
+    public void invalidate() {
+        stale = true;
+    }
+
+    private void clear(View target, Long seatId) {
+        SeatLocation location = target.locations().get(seatId);
+        if (location != null) {
+            location.row().free.clear(location.column());
+        }
+    }
+
+    private boolean needsRefresh(View current) {
+        return current == null
+                || stale
+                || System.nanoTime() - current.loadedAtNanos() >= REFRESH_INTERVAL.toNanos();
+    }
+
+    private void refreshIfNeeded() {
+        View current = view;
+        if (!needsRefresh(current)) {
+            return;
+        }
+        // Only the very first load makes callers wait; afterwards one caller reloads while the rest keep the old view.
+        if (current == null) {
+            loadLock.lock();
+        } else if (!loadLock.tryLock()) {
+            return;
+        }
+        try {
+            current = view;
+            if (!needsRefresh(current)) {
+                return;
+            }
+            stale = false;
+            long loadStart = System.nanoTime();
+            try {
+                View loaded = loadTransaction.execute(status -> load());
+                publish(loaded, loadStart);
+            } catch (RuntimeException ex) {
+                if (current == null) {
+                    throw ex;
+                }
+                stale = true;
+                log.warn("Seat availability reload failed, keeping previous view: {}", ex.getMessage());
+            }
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    private void publish(View loaded, long loadStart) {
+        stateLock.lock();
+        try {
+            // Seats held by in-flight claims, or booked here shortly before or during the read, must stay
+            // taken in the new view even if the rows we read did not show the booking yet.
+            long keepSince = loadStart - REFRESH_INTERVAL.toNanos();
+            recentlyBooked.values().removeIf(bookedAt -> bookedAt - keepSince < 0);
+            held.forEach(seatId -> clear(loaded, seatId));
+            recentlyBooked.keySet().forEach(seatId -> clear(loaded, seatId));
+            view = loaded;
+        } finally {
+            stateLock.unlock();
+        }
+    }
+
+    private View load() {
+        Map<String, Row> loadedRows = new TreeMap<>();
+        Map<Long, SeatLocation> loadedLocations = new HashMap<>();
+        for (Seat seat : seatRepository.findAll()) {
+            String seatNumber = seat.getSeatNumber();
+            int separator = seatNumber == null ? -1 : seatNumber.lastIndexOf(SEAT_NUMBER_SEPARATOR);
+            if (separator <= 0) {
+                log.debug("Skipping seat {} with unrecognised seat number {}", seat.getId(), seatNumber);
+                continue;
+            }
+            int column;
+            try {
+                column = Integer.parseInt(seatNumber.substring(separator + 1));
+            } catch (NumberFormatException ex) {
+                log.debug("Skipping seat {} with unrecognised seat number {}", seat.getId(), seatNumber);
+                continue;
+            }
+            Row row = loadedRows.computeIfAbsent(seatNumber.substring(0, separator), Row::new);
+            row.add(column, seat.getId(), !seat.isBooked());
+            loadedLocations.put(seat.getId(), new SeatLocation(row, column));
+        }
+        log.debug(
+                "Seat availability index loaded with {} rows and {} seats",
+                loadedRows.size(),
+                loadedLocations.size());
+        return new View(loadedRows, loadedLocations, System.nanoTime());
+    }
+
+    public record SeatBlock(String row, List<Long> seatIds) {
+    }
+
+    private record View(Map<String, Row> rows, Map<Long, SeatLocation> locations, long loadedAtNanos) {
+    }
+
+    private record SeatLocation(Row row, int column) {
+    }
+
+    private static final class Row {
+        private final String label;
+        private final BitSet free = new BitSet();
+        private final Map<Integer, Long> seatIds = new HashMap<>();
+        private int minColumn = Integer.MAX_VALUE;
+        private int maxColumn = Integer.MIN_VALUE;
+
+        private Row(String label) {
+            this.label = label;
+        }
+
+        private void add(int column, Long seatId, boolean available) {
+            seatIds.put(column, seatId);
+            minColumn = Math.min(minColumn, column);
+            maxColumn = Math.max(maxColumn, column);
+            if (available) {
+                free.set(column);
+            }
+        }
+
+        /**
+         * Walks the free runs of the row and returns the start column of the placement closest
+         * to the row centre, or -1 if no run is long enough.
+         */
+        private int bestStart(int quantity) {
+            int bestStart = -1;
+            double bestPenalty = Double.MAX_VALUE;
+            double idealStart = center() - (quantity - 1) / 2.0;
+            int runStart = free.nextSetBit(0);
+            while (runStart >= 0) {
+                int runEnd = free.nextClearBit(runStart);
+                if (runEnd - runStart >= quantity) {
+                    int start = (int) Math.round(Math.max(runStart, Math.min(runEnd - quantity, idealStart)));
+                    double penalty = centerPenalty(start, quantity);
+                    if (penalty < bestPenalty) {
+                        bestPenalty = penalty;
+                        bestStart = start;
+                    }
+                }
+                runStart = free.nextSetBit(runEnd);
+            }
+            return bestStart;
+        }
+
+        private double centerPenalty(int start, int quantity) {
+            double width = Math.max(1, maxColumn - minColumn);
+            double blockCenter = start + (quantity - 1) / 2.0;
+            return Math.abs(blockCenter - center()) / width;
+        }
+
+        private double center() {
+            return (minColumn + maxColumn) / 2.0;
+        }
+
+        private SeatBlock block(int start, int quantity) {
+            List<Long> ids = new ArrayList<>(quantity);
+            for (int column = start; column < start + quantity; column++) {
+                ids.add(seatIds.get(column));
+            }
+            return new SeatBlock(label, List.copyOf(ids));
+        }
+    }
+}
@@ -7,6 +7,7 @@ import java.util.Objects;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class SeatQueryService {
@@ -18,6 +19,7 @@ public class SeatQueryService {
         this.seatRepository = Objects.requireNonNull(seatRepository, "seatRepository");
     }
 
+    @Transactional(readOnly = true)
     public List<SeatDTO> fetchAllSeats() {
         log.debug("Loading seat inventory for UI hydration");
         return seatRepository.findAll().stream()
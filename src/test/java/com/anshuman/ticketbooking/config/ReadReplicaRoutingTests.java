@@ -0,0 +1,136 @@
+package com.anshuman.ticketbooking.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.anshuman.ticketbooking.dto.SeatDTO;
+import com.anshuman.ticketbooking.model.Seat;
+import com.anshuman.ticketbooking.repository.SeatRepository;
+import com.anshuman.ticketbooking.service.BookingCommand;
+import com.anshuman.ticketbooking.service.DatabaseLockingBookingStrategy;
+import com.anshuman.ticketbooking.service.SeatAvailabilityIndex;
+import com.anshuman.ticketbooking.service.SeatQueryService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Runs the JPA stack against two in-memory H2 databases standing in for the primary and a replica.
+ * The replica copy of the seat is deliberately different, so each assertion shows which one was read.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.hikari.maximum-pool-size=3",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "booking.datasource.replicas[0].url=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1",
+        "booking.datasource.lag-query=select 0"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({
+        DataSourceConfig.class,
+        SeatQueryService.class,
+        DatabaseLockingBookingStrategy.class,
+        SeatAvailabilityIndex.class
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReadReplicaRoutingTests {
+    private static final String REPLICA_COPY = "replica-copy";
+
+    @Autowired
+    private SeatRepository seatRepository;
+
+    @Autowired
+    private SeatQueryService seatQueryService;
+
+    @Autowired
+    private DatabaseLockingBookingStrategy databaseStrategy;
+
+    @Autowired
+    private SeatAvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private HikariDataSource primaryDataSource;
+
+    @Autowired
+    private ReplicaRoutingDataSource replicaDataSource;
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+    private Long seatId;
+
+    @BeforeEach
+    void seedPrimaryAndReplica() {
+        primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate((HikariDataSource) replicaDataSource.getResolvedDataSources().get("replica-0"));
+        seatRepository.deleteAll();
+        seatId = seatRepository.save(new Seat("A-1")).getId();
+
+        replica.execute("create table if not exists seats (id bigint primary key, seat_number varchar(255), "
+                + "booked_by varchar(255), booked_at timestamp(6) with time zone, lock_token bigint, version bigint)");
+        replica.update("delete from seats");
+        replica.update("insert into seats (id, seat_number, booked_by, version) values (?, 'A-1', ?, 0)",
+                seatId, REPLICA_COPY);
+        replicaDataSource.refreshReplicaLag();
+    }
+
+    @Test
+    void seatListingReadsFromReplica() {
+        assertThat(seatQueryService.fetchAllSeats())
+                .extracting(SeatDTO::bookedBy)
+                .containsExactly(REPLICA_COPY);
+    }
+
+    @Test
+    void databaseLockingBookingStaysOnPrimary() {
+        databaseStrategy.bookSeat(new BookingCommand(seatId, "u-1"));
+
+        assertThat(primary.queryForObject("select booked_by from seats where id = ?", String.class, seatId))
+                .isEqualTo("u-1");
+        assertThat(replica.queryForObject("select booked_by from seats where id = ?", String.class, seatId))
+                .isEqualTo(REPLICA_COPY);
+    }
+
+    @Test
+    void availabilityIndexLoadsFromPrimary() {
+        // The replica copy is booked, so a replica read would leave no free seat to hand out.
+        assertThat(availabilityIndex.reserveBestBlock(1))
+                .hasValueSatisfying(block -> assertThat(block.seatIds()).containsExactly(seatId));
+    }
+
+    @Test
+    void transactionTemplateOnlyLeavesPrimaryWhenReadOnly() {
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        String primaryBookedBy = readWrite.execute(
+                status -> seatRepository.findById(seatId).orElseThrow().getBookedBy());
+        String replicaBookedBy = readOnly.execute(
+                status -> seatRepository.findById(seatId).orElseThrow().getBookedBy());
+
+        assertThat(primaryBookedBy).isNull();
+        assertThat(replicaBookedBy).isEqualTo(REPLICA_COPY);
+    }
+
+    @Test
+    void replicaPoolInheritsPrimaryPoolSettings() {
+        HikariDataSource replicaPool = (HikariDataSource) replicaDataSource.getResolvedDataSources().get("replica-0");
+
+        assertThat(replicaPool.getMaximumPoolSize()).isEqualTo(3);
+        assertThat(replicaPool.getConnectionTimeout()).isEqualTo(1000);
+        assertThat(replicaPool.isReadOnly()).isTrue();
+    }
+}
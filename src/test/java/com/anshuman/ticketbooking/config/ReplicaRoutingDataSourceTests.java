@@ -0,0 +1,107 @@
+package com.anshuman.ticketbooking.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class ReplicaRoutingDataSourceTests {
+    private static final Duration MAX_STALENESS = Duration.ofSeconds(2);
+
+    private final List<ReplicaRoutingDataSource> created = new ArrayList<>();
+
+    @AfterEach
+    void closeRoutingDataSources() throws Exception {
+        for (ReplicaRoutingDataSource routing : created) {
+            routing.close();
+        }
+    }
+
+    @Test
+    void routesReadsAcrossFreshReplicas() throws SQLException {
+        ReplicaRoutingDataSource routing = routing(replicaWithLag(0.1), replicaWithLag(0.5));
+        routing.refreshReplicaLag();
+
+        assertThat(List.of(
+                routing.determineCurrentLookupKey(),
+                routing.determineCurrentLookupKey()))
+                .containsExactlyInAnyOrder("replica-0", "replica-1");
+    }
+
+    @Test
+    void skipsReplicaBeyondStalenessTolerance() throws SQLException {
+        ReplicaRoutingDataSource routing = routing(replicaWithLag(30.0), replicaWithLag(0.0));
+        routing.refreshReplicaLag();
+
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo("replica-1");
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo("replica-1");
+    }
+
+    @Test
+    void treatsUnknownLagAsStale() throws SQLException {
+        ReplicaRoutingDataSource routing = routing(replicaWithLag(null));
+        routing.refreshReplicaLag();
+
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.PRIMARY_KEY);
+    }
+
+    @Test
+    void fallsBackToPrimaryWhenNoReplicaIsUsable() throws SQLException {
+        DataSource unreachable = mock(DataSource.class);
+        when(unreachable.getConnection()).thenThrow(new SQLException("connection refused"));
+        ReplicaRoutingDataSource routing = routing(replicaWithLag(30.0), unreachable);
+        routing.refreshReplicaLag();
+
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.PRIMARY_KEY);
+    }
+
+    @Test
+    void routingDoesNotWaitOnHungReplica() throws SQLException {
+        DataSource hung = mock(DataSource.class);
+        when(hung.getConnection()).thenAnswer(invocation -> {
+            Thread.sleep(Duration.ofSeconds(5));
+            throw new SQLException("connection timed out");
+        });
+        ReplicaRoutingDataSource routing = routing(hung);
+
+        long start = System.nanoTime();
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.PRIMARY_KEY);
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(100));
+    }
+
+    private ReplicaRoutingDataSource routing(DataSource... replicas) {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(
+                mock(DataSource.class),
+                List.of(replicas),
+                MAX_STALENESS,
+                Duration.ofMinutes(1),
+                ReplicaDataSourceProperties.DEFAULT_LAG_QUERY);
+        created.add(routing);
+        return routing;
+    }
+
+    private static DataSource replicaWithLag(Double lagSeconds) throws SQLException {
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getDouble(1)).thenReturn(lagSeconds == null ? 0 : lagSeconds);
+        when(resultSet.wasNull()).thenReturn(lagSeconds == null);
+        Statement statement = mock(Statement.class);
+        when(statement.executeQuery(anyString())).thenReturn(resultSet);
+        Connection connection = mock(Connection.class);
+        when(connection.createStatement()).thenReturn(statement);
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        return dataSource;
+    }
+}
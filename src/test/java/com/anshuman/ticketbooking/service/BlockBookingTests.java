@@ -0,0 +1,112 @@
+package com.anshuman.ticketbooking.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.anshuman.ticketbooking.config.DistributedLockProperties;
+import com.anshuman.ticketbooking.exception.SeatOccupiedException;
+import com.anshuman.ticketbooking.model.Seat;
+import com.anshuman.ticketbooking.repository.SeatRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RFencedLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * A best-available block is claimed all or nothing: when one seat in it is already taken, the
+ * seats claimed before it must be rolled back with it, whichever strategy did the claiming.
+ */
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:blocks;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000")
+@Import({DatabaseLockingBookingStrategy.class, FencedSeatWriter.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BlockBookingTests {
+    @Autowired
+    private DatabaseLockingBookingStrategy databaseStrategy;
+
+    @Autowired
+    private FencedSeatWriter seatWriter;
+
+    @Autowired
+    private SeatRepository seatRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private List<Long> block;
+
+    @BeforeEach
+    void seedRow() {
+        seatRepository.deleteAll();
+        Seat taken = new Seat("A-2");
+        taken.book("someone");
+        block = List.of(
+                seatRepository.save(new Seat("A-1")).getId(),
+                seatRepository.save(taken).getId(),
+                seatRepository.save(new Seat("A-3")).getId());
+    }
+
+    @Test
+    void databaseStrategyBooksNoneOfABlockWithATakenSeat() {
+        assertThatThrownBy(() -> databaseStrategy.bookSeats(new BlockBookingCommand(block, "user-1")))
+                .isInstanceOf(SeatOccupiedException.class)
+                .extracting(ex -> ((SeatOccupiedException) ex).getSeatId())
+                .isEqualTo(block.get(1));
+
+        assertThat(bookedBy(block.get(0))).isNull();
+        assertThat(bookedBy(block.get(2))).isNull();
+    }
+
+    @Test
+    void distributedStrategyBooksNoneOfABlockWithATakenSeat() {
+        DistributedLockingBookingStrategy distributedStrategy = new DistributedLockingBookingStrategy(
+                grantingRedisson(),
+                transactionManager,
+                seatWriter,
+                lockProperties(),
+                new LockLeaseSizer(lockProperties(), new SimpleMeterRegistry()));
+
+        assertThatThrownBy(() -> distributedStrategy.bookSeats(new BlockBookingCommand(block, "user-1")))
+                .isInstanceOf(SeatOccupiedException.class)
+                .extracting(ex -> ((SeatOccupiedException) ex).getSeatId())
+                .isEqualTo(block.get(1));
+
+        assertThat(bookedBy(block.get(0))).isNull();
+        assertThat(bookedBy(block.get(2))).isNull();
+    }
+
+    private String bookedBy(Long seatId) {
+        return jdbcTemplate.queryForObject("select booked_by from seats where id = ?", String.class, seatId);
+    }
+
+    private static RedissonClient grantingRedisson() {
+        AtomicLong tokens = new AtomicLong();
+        RFencedLock lock = mock(RFencedLock.class);
+        when(lock.tryLockAndGetToken(anyLong(), anyLong(), any())).thenAnswer(invocation -> tokens.incrementAndGet());
+        RedissonClient redissonClient = mock(RedissonClient.class);
+        when(redissonClient.getFencedLock(anyString())).thenReturn(lock);
+        return redissonClient;
+    }
+
+    private static DistributedLockProperties lockProperties() {
+        return new DistributedLockProperties(Duration.ofSeconds(2), Duration.ofSeconds(1), Duration.ofSeconds(5), 2.0);
+    }
+}
@@ -0,0 +1,111 @@
+package com.anshuman.ticketbooking.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.anshuman.ticketbooking.exception.BulkheadFullException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class BookingBulkheadTests {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void rejectsImmediatelyOnceDeadlineHasPassed() {
+        BookingBulkhead bulkhead = new BookingBulkhead("database", 1, Duration.ofSeconds(1), meterRegistry);
+
+        assertThatThrownBy(() -> bulkhead.execute(System.nanoTime() - 1, () -> "booked"))
+                .isInstanceOf(BulkheadFullException.class);
+        assertThat(rejected()).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsAfterMaxWaitWhenNoPermitFrees() throws Exception {
+        BookingBulkhead bulkhead = new BookingBulkhead("database", 1, Duration.ofMillis(50), meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> holder = holdPermit(bulkhead, release);
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> bulkhead.execute(deadlineIn(Duration.ofSeconds(5)), () -> "booked"))
+                .isInstanceOf(BulkheadFullException.class);
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isBetween(Duration.ofMillis(40), Duration.ofSeconds(1));
+        assertThat(meterRegistry.get("booking.bulkhead.wait").timer().count()).isEqualTo(2);
+
+        release.countDown();
+        assertThat(holder.get(5, TimeUnit.SECONDS)).isEqualTo("held");
+        assertThat(rejected()).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsWithoutWaitingWhenEstimatedWaitExceedsMaxWait() throws Exception {
+        BookingBulkhead bulkhead = new BookingBulkhead("redis", 1, Duration.ofMillis(50), meterRegistry);
+        bulkhead.execute(deadlineIn(Duration.ofSeconds(5)), () -> {
+            sleep(Duration.ofMillis(300));
+            return "slow";
+        });
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> holder = holdPermit(bulkhead, release);
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> bulkhead.execute(deadlineIn(Duration.ofSeconds(5)), () -> "booked"))
+                .isInstanceOf(BulkheadFullException.class);
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(40));
+
+        release.countDown();
+        holder.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void releasesPermitWhenCallThrows() {
+        BookingBulkhead bulkhead = new BookingBulkhead("database", 1, Duration.ofMillis(50), meterRegistry);
+
+        assertThatThrownBy(() -> bulkhead.execute(deadlineIn(Duration.ofSeconds(5)), () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(bulkhead.execute(deadlineIn(Duration.ofSeconds(5)), () -> "booked")).isEqualTo("booked");
+        assertThat(meterRegistry.get("booking.bulkhead.active").gauge().value()).isZero();
+        assertThat(rejected()).isZero();
+    }
+
+    private CompletableFuture<String> holdPermit(BookingBulkhead bulkhead, CountDownLatch release)
+            throws InterruptedException {
+        CountDownLatch acquired = new CountDownLatch(1);
+        CompletableFuture<String> holder = CompletableFuture.supplyAsync(() ->
+                bulkhead.execute(deadlineIn(Duration.ofSeconds(5)), () -> {
+                    acquired.countDown();
+                    await(release);
+                    return "held";
+                }));
+        assertThat(acquired.await(5, TimeUnit.SECONDS)).isTrue();
+        return holder;
+    }
+
+    private double rejected() {
+        return meterRegistry.get("booking.bulkhead.rejected.total").counter().count();
+    }
+
+    private static long deadlineIn(Duration budget) {
+        return System.nanoTime() + budget.toNanos();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
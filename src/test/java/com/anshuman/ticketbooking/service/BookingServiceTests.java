@@ -0,0 +1,82 @@
+package com.anshuman.ticketbooking.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.anshuman.ticketbooking.config.BookingBulkheadProperties;
+import com.anshuman.ticketbooking.exception.SeatOccupiedException;
+import com.anshuman.ticketbooking.model.Seat;
+import com.anshuman.ticketbooking.repository.SeatRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+class BookingServiceTests {
+
+    @Test
+    void staleBlockIsReleasedAndNextBlockIsTried() {
+        List<Seat> seats = row(6);
+        SeatRepository repository = mock(SeatRepository.class);
+        when(repository.findAll()).thenReturn(seats);
+        SeatAvailabilityIndex index = new SeatAvailabilityIndex(repository, mock(PlatformTransactionManager.class));
+        DatabaseLockingBookingStrategy databaseStrategy = mock(DatabaseLockingBookingStrategy.class);
+        when(databaseStrategy.bookSeats(any()))
+                .thenAnswer(invocation -> {
+                    // Another instance booked seat 3 after this index was loaded.
+                    seats.get(2).book("other-node");
+                    throw new SeatOccupiedException(3L, "other-node", Instant.now());
+                })
+                .thenAnswer(invocation -> booked(invocation.getArgument(0)));
+        BookingService service = new BookingService(
+                databaseStrategy,
+                mock(DistributedLockingBookingStrategy.class),
+                mock(WebSocketService.class),
+                index,
+                new BookingBulkheadRegistry(bulkheadProperties(), new SimpleMeterRegistry()));
+
+        List<BookingResult> results = service.bookBestAvailable(
+                new BestAvailableCommand(2, "user-1"),
+                BookingStrategyType.DATABASE);
+
+        ArgumentCaptor<BlockBookingCommand> attempts = ArgumentCaptor.forClass(BlockBookingCommand.class);
+        verify(databaseStrategy, times(2)).bookSeats(attempts.capture());
+        assertThat(attempts.getAllValues().get(0).seatIds()).containsExactly(3L, 4L);
+        assertThat(attempts.getAllValues().get(1).seatIds()).containsExactly(4L, 5L);
+        assertThat(results).extracting(BookingResult::seatId).containsExactly(4L, 5L);
+        // Seat 4 went back to the pool and was booked; seat 3 stays taken, leaving only 1, 2 and 6.
+        assertThat(index.reserveBestBlock(2).get().seatIds()).containsExactly(1L, 2L);
+        assertThat(index.reserveBestBlock(1).get().seatIds()).containsExactly(6L);
+        assertThat(index.reserveBestBlock(1)).isEmpty();
+    }
+
+    private static List<BookingResult> booked(BlockBookingCommand command) {
+        return command.seatIds().stream()
+                .map(seatId -> new BookingResult(seatId, "A-" + seatId, command.userId(), Instant.now(), true))
+                .toList();
+    }
+
+    private static BookingBulkheadProperties bulkheadProperties() {
+        BookingBulkheadProperties.Limits limits = new BookingBulkheadProperties.Limits(1, Duration.ofMillis(500));
+        return new BookingBulkheadProperties(Duration.ofSeconds(3), limits, limits);
+    }
+
+    private static List<Seat> row(int columns) {
+        List<Seat> seats = new ArrayList<>();
+        for (int c = 1; c <= columns; c++) {
+            Seat seat = new Seat("A-" + c);
+            ReflectionTestUtils.setField(seat, "id", (long) c);
+            seats.add(seat);
+        }
+        return seats;
+    }
+}
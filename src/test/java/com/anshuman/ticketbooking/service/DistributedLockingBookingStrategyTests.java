@@ -0,0 +1,92 @@
+package com.anshuman.ticketbooking.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.anshuman.ticketbooking.config.DistributedLockProperties;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.redisson.api.RFencedLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.transaction.PlatformTransactionManager;
+
+class DistributedLockingBookingStrategyTests {
+    private static final Duration SHORT_LEASE = Duration.ofMillis(100);
+    private static final Duration WAIT_TIMEOUT = Duration.ofSeconds(2);
+    private static final long CONTENDED_WAIT_MS = 150;
+
+    private final RedissonClient redissonClient = mock(RedissonClient.class);
+    private final FencedSeatWriter seatWriter = mock(FencedSeatWriter.class);
+    private final LockLeaseSizer leaseSizer = mock(LockLeaseSizer.class);
+    private final RFencedLock firstLock = mock(RFencedLock.class);
+    private final RFencedLock secondLock = mock(RFencedLock.class);
+    private DistributedLockingBookingStrategy strategy;
+
+    @BeforeEach
+    void setUp() {
+        when(leaseSizer.currentLease()).thenReturn(SHORT_LEASE);
+        when(redissonClient.getFencedLock("lock:seat:1")).thenReturn(firstLock);
+        when(redissonClient.getFencedLock("lock:seat:2")).thenReturn(secondLock);
+        when(firstLock.tryLockAndGetToken(anyLong(), anyLong(), eq(TimeUnit.MILLISECONDS))).thenReturn(10L);
+        when(secondLock.tryLockAndGetToken(anyLong(), anyLong(), eq(TimeUnit.MILLISECONDS))).thenAnswer(invocation -> {
+            // Another booking holds seat 2 for a while before we get it.
+            Thread.sleep(CONTENDED_WAIT_MS);
+            return 11L;
+        });
+        when(seatWriter.claim(anyLong(), anyString(), anyLong())).thenAnswer(invocation -> new BookingResult(
+                invocation.getArgument(0),
+                "A-" + invocation.getArgument(0),
+                invocation.getArgument(1),
+                Instant.now(),
+                true));
+        strategy = new DistributedLockingBookingStrategy(
+                redissonClient,
+                mock(PlatformTransactionManager.class),
+                seatWriter,
+                new DistributedLockProperties(WAIT_TIMEOUT, SHORT_LEASE, Duration.ofSeconds(5), 2.0),
+                leaseSizer);
+    }
+
+    @Test
+    void blockLocksOutliveTheWaitForLaterLocks() {
+        strategy.bookSeats(new BlockBookingCommand(List.of(1L, 2L), "user-1"));
+
+        long firstLease = leaseFor(firstLock);
+        long secondLease = leaseFor(secondLock);
+        assertThat(firstLease).isGreaterThan(WAIT_TIMEOUT.toMillis());
+        assertThat(firstLease).isLessThanOrEqualTo(SHORT_LEASE.toMillis() + WAIT_TIMEOUT.toMillis());
+        assertThat(secondLease).isGreaterThanOrEqualTo(SHORT_LEASE.toMillis());
+    }
+
+    @Test
+    void holdTimeIsMeasuredFromTheFirstAcquisition() {
+        strategy.bookSeats(new BlockBookingCommand(List.of(1L, 2L), "user-1"));
+
+        ArgumentCaptor<Duration> holdTime = ArgumentCaptor.forClass(Duration.class);
+        verify(leaseSizer).recordHoldTime(holdTime.capture());
+        assertThat(holdTime.getValue()).isGreaterThanOrEqualTo(Duration.ofMillis(CONTENDED_WAIT_MS));
+    }
+
+    @Test
+    void singleSeatUsesTheAdaptiveLease() {
+        strategy.bookSeat(new BookingCommand(1L, "user-1"));
+
+        assertThat(leaseFor(firstLock)).isEqualTo(SHORT_LEASE.toMillis());
+    }
+
+    private static long leaseFor(RFencedLock lock) {
+        ArgumentCaptor<Long> lease = ArgumentCaptor.forClass(Long.class);
+        verify(lock).tryLockAndGetToken(anyLong(), lease.capture(), eq(TimeUnit.MILLISECONDS));
+        return lease.getValue();
+    }
+}
@@ -0,0 +1,122 @@
+package com.anshuman.ticketbooking.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.anshuman.ticketbooking.exception.SeatOccupiedException;
+import com.anshuman.ticketbooking.exception.StaleLockException;
+import com.anshuman.ticketbooking.model.Seat;
+import com.anshuman.ticketbooking.repository.SeatRepository;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Two Redis lock holders for the same seat: A holds the older token (its lease lapsed) and B the
+ * newer one. Whatever order their writes reach the database in, only one booking may land and an
+ * ordinary lost race must surface as an occupied seat, not as an expired lock.
+ */
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:fencing;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000")
+@Import(FencedSeatWriter.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class FencedSeatWriterTests {
+    private static final long STALE_TOKEN = 5;
+    private static final long NEWER_TOKEN = 6;
+
+    @Autowired
+    private FencedSeatWriter seatWriter;
+
+    @Autowired
+    private SeatRepository seatRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private Long seatId;
+
+    @BeforeEach
+    void seedSeat() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        seatRepository.deleteAll();
+        seatId = seatRepository.save(new Seat("A-1")).getId();
+    }
+
+    @Test
+    void newerHolderLosingToStaleWriteSeesOccupiedSeat() {
+        claim("stale-a", STALE_TOKEN);
+
+        assertThatThrownBy(() -> claim("newer-b", NEWER_TOKEN))
+                .isInstanceOf(SeatOccupiedException.class);
+        assertThat(bookedBy()).isEqualTo("stale-a");
+    }
+
+    @Test
+    void staleHolderCannotBookAfterNewerHolder() {
+        claim("newer-b", NEWER_TOKEN);
+
+        assertThatThrownBy(() -> claim("stale-a", STALE_TOKEN))
+                .isInstanceOf(SeatOccupiedException.class);
+        assertThat(bookedBy()).isEqualTo("newer-b");
+    }
+
+    @Test
+    void staleHolderIsFencedOutWhileNewerHolderIsMidTransaction() throws Exception {
+        CountDownLatch newerFenced = new CountDownLatch(1);
+        CountDownLatch commitNewer = new CountDownLatch(1);
+        CompletableFuture<BookingResult> newer = CompletableFuture.supplyAsync(() ->
+                transactionTemplate.execute(status -> {
+                    BookingResult result = seatWriter.claim(seatId, "newer-b", NEWER_TOKEN);
+                    newerFenced.countDown();
+                    await(commitNewer);
+                    return result;
+                }));
+        assertThat(newerFenced.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<BookingResult> stale = CompletableFuture.supplyAsync(() -> claim("stale-a", STALE_TOKEN));
+        commitNewer.countDown();
+
+        assertThat(newer.get(5, TimeUnit.SECONDS).bookedBy()).isEqualTo("newer-b");
+        assertThatThrownBy(() -> stale.get(15, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(SeatOccupiedException.class);
+        assertThat(bookedBy()).isEqualTo("newer-b");
+    }
+
+    @Test
+    void rejectsTokenOlderThanTheOneOnAFreeSeat() {
+        jdbcTemplate.update("update seats set lock_token = ? where id = ?", NEWER_TOKEN, seatId);
+
+        assertThatThrownBy(() -> claim("stale-a", STALE_TOKEN))
+                .isInstanceOf(StaleLockException.class);
+        assertThat(bookedBy()).isNull();
+    }
+
+    private BookingResult claim(String userId, long token) {
+        return transactionTemplate.execute(status -> seatWriter.claim(seatId, userId, token));
+    }
+
+    private String bookedBy() {
+        return jdbcTemplate.queryForObject("select booked_by from seats where id = ?", String.class, seatId);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
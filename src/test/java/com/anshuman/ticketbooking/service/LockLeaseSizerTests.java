@@ -0,0 +1,64 @@
+package com.anshuman.ticketbooking.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.anshuman.ticketbooking.config.DistributedLockProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class LockLeaseSizerTests {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final LockLeaseSizer sizer = new LockLeaseSizer(
+            new DistributedLockProperties(Duration.ofSeconds(2), Duration.ofMillis(100), Duration.ofSeconds(5), 2.0),
+            meterRegistry);
+
+    @Test
+    void startsAtMaxLeaseUntilEnoughSamples() {
+        record(31, Duration.ofMillis(200));
+
+        assertThat(sizer.currentLease()).isEqualTo(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void sizesLeaseFromP99TimesSafetyFactor() {
+        record(95, Duration.ofMillis(200));
+        record(1, Duration.ofMillis(1500));
+
+        // With 96 samples the p99 rank is the 96th, which is the single slow outlier.
+        assertThat(sizer.currentLease()).isEqualTo(Duration.ofMillis(3000));
+        assertThat(meterRegistry.get("booking.lock.lease").gauge().value()).isEqualTo(3000);
+    }
+
+    @Test
+    void ignoresOutliersAboveP99() {
+        record(127, Duration.ofMillis(200));
+        record(1, Duration.ofMillis(1500));
+
+        // With 128 samples the p99 rank is the 127th, so one outlier no longer moves the lease.
+        assertThat(sizer.currentLease()).isEqualTo(Duration.ofMillis(400));
+    }
+
+    @Test
+    void clampsLeaseToConfiguredBounds() {
+        record(32, Duration.ofMillis(10));
+        assertThat(sizer.currentLease()).isEqualTo(Duration.ofMillis(100));
+
+        record(512, Duration.ofSeconds(10));
+        assertThat(sizer.currentLease()).isEqualTo(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void onlyRecentWindowCounts() {
+        record(512, Duration.ofSeconds(2));
+        record(512, Duration.ofMillis(300));
+
+        assertThat(sizer.currentLease()).isEqualTo(Duration.ofMillis(600));
+    }
+
+    private void record(int times, Duration holdTime) {
+        for (int i = 0; i < times; i++) {
+            sizer.recordHoldTime(holdTime);
+        }
+    }
+}
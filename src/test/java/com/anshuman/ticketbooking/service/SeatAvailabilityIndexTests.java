@@ -0,0 +1,135 @@
+package com.anshuman.ticketbooking.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.anshuman.ticketbooking.model.Seat;
+import com.anshuman.ticketbooking.repository.SeatRepository;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class SeatAvailabilityIndexTests {
+
+    @Test
+    void picksCentredBlockInMiddleRow() {
+        SeatAvailabilityIndex index = indexFor(grid(3, 6));
+
+        Optional<SeatAvailabilityIndex.SeatBlock> block = index.reserveBestBlock(2);
+
+        assertThat(block).isPresent();
+        assertThat(block.get().row()).isEqualTo("B");
+        assertThat(block.get().seatIds()).containsExactly(9L, 10L);
+    }
+
+    @Test
+    void reservedSeatsAreNotHandedOutTwice() {
+        SeatAvailabilityIndex index = indexFor(grid(1, 4));
+
+        Optional<SeatAvailabilityIndex.SeatBlock> first = index.reserveBestBlock(2);
+        assertThat(first).isPresent();
+        assertThat(first.get().seatIds()).containsExactly(2L, 3L);
+        assertThat(index.reserveBestBlock(2)).isEmpty();
+
+        index.release(first.get().seatIds());
+        assertThat(index.reserveBestBlock(2)).contains(first.get());
+    }
+
+    @Test
+    void releaseKeepsSeatsBookedWhileHeld() {
+        SeatAvailabilityIndex index = indexFor(grid(1, 4));
+        SeatAvailabilityIndex.SeatBlock block = index.reserveBestBlock(2).get();
+        assertThat(block.seatIds()).containsExactly(2L, 3L);
+
+        index.markBooked(2L);
+        index.release(block.seatIds());
+
+        assertThat(index.reserveBestBlock(2).get().seatIds()).containsExactly(3L, 4L);
+    }
+
+    @Test
+    void skipsRunsShorterThanRequested() {
+        List<Seat> seats = grid(2, 5);
+        seats.get(7).book("someone");
+        SeatAvailabilityIndex index = indexFor(seats);
+
+        Optional<SeatAvailabilityIndex.SeatBlock> block = index.reserveBestBlock(3);
+
+        assertThat(block).isPresent();
+        assertThat(block.get().row()).isEqualTo("A");
+        assertThat(index.reserveBestBlock(3)).isEmpty();
+    }
+
+    @Test
+    void invalidateReloadsExternalBookingsButKeepsHolds() {
+        List<Seat> seats = grid(1, 6);
+        SeatAvailabilityIndex index = indexFor(seats);
+        assertThat(index.reserveBestBlock(2).get().seatIds()).containsExactly(3L, 4L);
+
+        seats.get(0).book("other-node");
+        seats.get(1).book("other-node");
+        index.invalidate();
+
+        assertThat(index.reserveBestBlock(2).get().seatIds()).containsExactly(5L, 6L);
+        assertThat(index.reserveBestBlock(1)).isEmpty();
+    }
+
+    @Test
+    void reloadKeepsSeatsBookedHereEvenWhenTheSourceStillShowsThemFree() {
+        SeatAvailabilityIndex index = indexFor(grid(1, 3));
+        assertThat(index.reserveBestBlock(1).get().seatIds()).containsExactly(2L);
+        index.markBooked(2L);
+
+        // The reload source has not caught up with the booking and still reports seat 2 as free.
+        index.invalidate();
+
+        assertThat(index.reserveBestBlock(3)).isEmpty();
+        assertThat(index.reserveBestBlock(2)).isEmpty();
+    }
+
+    @Test
+    void loadDoesNotBlockUpdatesAndKeepsSeatsBookedMeanwhile() throws Exception {
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch finishLoad = new CountDownLatch(1);
+        SeatRepository repository = mock(SeatRepository.class);
+        when(repository.findAll()).thenAnswer(invocation -> {
+            loadStarted.countDown();
+            finishLoad.await();
+            return grid(1, 3);
+        });
+        SeatAvailabilityIndex index = new SeatAvailabilityIndex(repository, mock(PlatformTransactionManager.class));
+
+        CompletableFuture<Optional<SeatAvailabilityIndex.SeatBlock>> reservation =
+                CompletableFuture.supplyAsync(() -> index.reserveBestBlock(1));
+        assertThat(loadStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture.runAsync(() -> index.markBooked(2L)).get(1, TimeUnit.SECONDS);
+        finishLoad.countDown();
+
+        assertThat(reservation.get(5, TimeUnit.SECONDS).get().seatIds()).doesNotContain(2L);
+    }
+
+    private static SeatAvailabilityIndex indexFor(List<Seat> seats) {
+        SeatRepository repository = mock(SeatRepository.class);
+        when(repository.findAll()).thenReturn(seats);
+        return new SeatAvailabilityIndex(repository, mock(PlatformTransactionManager.class));
+    }
+
+    private static List<Seat> grid(int rows, int columns) {
+        List<Seat> seats = new ArrayList<>();
+        for (int r = 0; r < rows; r++) {
+            for (int c = 1; c <= columns; c++) {
+                Seat seat = new Seat((char) ('A' + r) + "-" + c);
+                ReflectionTestUtils.setField(seat, "id", (long) (r * columns + c));
+                seats.add(seat);
+            }
+        }
+        return seats;
+    }
+}